@@ -0,0 +1,129 @@
+package com.github.rlespinasse.jarvis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * multi-pattern automaton (Aho-Corasick) over bytes,<br/>
+ * <i>all the patterns are found in a single pass, without any backtracking on the input</i>
+ *
+ * @author Romain Lespinasse
+ */
+final class ByteAutomaton {
+    private static final int ALPHABET = 256;
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final int[][] transitions;
+    private final int[][] matches;
+    private final int[] lengths;
+
+    /**
+     * build the automaton of some patterns
+     * @param patterns patterns to search
+     * @throws IllegalArgumentException if a pattern is null or empty
+     */
+    ByteAutomaton(List<byte[]> patterns) {
+        List<int[]> trie = new ArrayList<int[]>();
+        List<int[]> outputs = new ArrayList<int[]>();
+        trie.add(newState());
+        outputs.add(NO_MATCHES);
+        this.lengths = new int[patterns.size()];
+        for(int index = 0; index < patterns.size(); index++) {
+            byte[] pattern = patterns.get(index);
+            if(pattern == null || pattern.length == 0)
+                throw new IllegalArgumentException("Unexpectedly empty pattern");
+            lengths[index] = pattern.length;
+            int state = 0;
+            for(byte b:pattern) {
+                int symbol = b & 0xFF;
+                if(trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newState());
+                    outputs.add(NO_MATCHES);
+                }
+                state = trie.get(state)[symbol];
+            }
+            outputs.set(state, append(outputs.get(state), index));
+        }
+        this.transitions = trie.toArray(new int[trie.size()][]);
+        this.matches = outputs.toArray(new int[outputs.size()][]);
+        link();
+    }
+
+    /**
+     * get the next state of the automaton
+     * @param state current state (<code>0</code> at the start of an input)
+     * @param b next byte of the input
+     * @return next state
+     */
+    int next(int state, byte b) {
+        return transitions[state][b & 0xFF];
+    }
+
+    /**
+     * get the patterns ending on a state
+     * @param state a state of the automaton
+     * @return indexes of the matching patterns (empty if none)
+     */
+    int[] matches(int state) {
+        return matches[state];
+    }
+
+    /**
+     * get the length of a pattern
+     * @param pattern index of the pattern
+     * @return length of the pattern in bytes
+     */
+    int length(int pattern) {
+        return lengths[pattern];
+    }
+
+    // breadth-first computation of the failure links, folded into a complete transition table
+    private void link() {
+        int[] failures = new int[transitions.length];
+        LinkedList<Integer> queue = new LinkedList<Integer>();
+        for(int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = transitions[0][symbol];
+            if(child < 0) {
+                transitions[0][symbol] = 0;
+            } else {
+                failures[child] = 0;
+                queue.add(child);
+            }
+        }
+        while(!queue.isEmpty()) {
+            int state = queue.removeFirst();
+            if(matches[failures[state]].length > 0)
+                matches[state] = concat(matches[state], matches[failures[state]]);
+            for(int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = transitions[state][symbol];
+                if(child < 0) {
+                    transitions[state][symbol] = transitions[failures[state]][symbol];
+                } else {
+                    failures[child] = transitions[failures[state]][symbol];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.rlespinasse.jarvis;
+
+import com.github.rlespinasse.jarvis.beans.JarClassInfo;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * reader of the header, the constant pool and the member descriptors of a class file,<br/>
+ * <i>the attributes (like the bytecode of the methods) are skipped without being decoded,
+ * and the class attributes after the methods are not read</i>
+ *
+ * @author Romain Lespinasse
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se7/html/jvms-4.html">The class File Format</a>
+ */
+final class ClassFileReader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int SKIP_BUFFER_SIZE = 8192;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private final ConcurrentMap<String, String> names;
+
+    /**
+     * initialize a reader
+     * @param names shared pool of class names, to keep a single instance of each name
+     */
+    ClassFileReader(ConcurrentMap<String, String> names) {
+        this.names = names;
+    }
+
+    /**
+     * read the class informations of a class file
+     * @param path path of the class file into the jar
+     * @param input content of the class file
+     * @return class informations, or <code>null</code> if the content is not a class file
+     * @throws IOException if an I/O error has occurred, or if the class file is truncated or malformed (the message contains <code>path</code>)
+     */
+    JarClassInfo read(String path, InputStream input) throws IOException {
+        try {
+            return read(path, new DataInputStream(input));
+        } catch (EOFException e) {
+            throw new IOException("Truncated class file " + path, e);
+        } catch (UTFDataFormatException e) {
+            throw new IOException("Malformed constant pool string into " + path, e);
+        }
+    }
+
+    private JarClassInfo read(String path, DataInputStream data) throws IOException {
+        if(data.readInt() != MAGIC)
+            return null;
+        int minorVersion = data.readUnsignedShort();
+        int majorVersion = data.readUnsignedShort();
+
+        int count = data.readUnsignedShort();
+        String[] utf8s = new String[count];
+        int[] classes = new int[count];
+        List<Integer> descriptors = new ArrayList<Integer>();
+        for(int index = 1; index < count; index++) {
+            int tag = data.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    utf8s[index] = data.readUTF();
+                    break;
+                case CONSTANT_CLASS:
+                    classes[index] = data.readUnsignedShort();
+                    break;
+                case CONSTANT_NAME_AND_TYPE:
+                    data.readUnsignedShort();
+                    descriptors.add(data.readUnsignedShort());
+                    break;
+                case CONSTANT_METHOD_TYPE:
+                    descriptors.add(data.readUnsignedShort());
+                    break;
+                case CONSTANT_STRING:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    skip(data, 2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    skip(data, 3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skip(data, 4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    skip(data, 8);
+                    // 8-bytes constants take two entries into the pool
+                    index++;
+                    break;
+                default:
+                    throw new IOException("Unexpected constant pool tag " + tag + " into " + path);
+            }
+        }
+
+        int accessFlags = data.readUnsignedShort();
+        String name = className(path, utf8s, classes, data.readUnsignedShort());
+        int superClass = data.readUnsignedShort();
+        String superName = superClass != 0 ? className(path, utf8s, classes, superClass) : null;
+        int interfacesCount = data.readUnsignedShort();
+        List<String> interfaces = new ArrayList<String>(interfacesCount);
+        for(int index = 0; index < interfacesCount; index++)
+            interfaces.add(className(path, utf8s, classes, data.readUnsignedShort()));
+        // fields then methods, a type only used into a member signature is not always into the constant pool
+        for(int members = 0; members < 2; members++) {
+            int membersCount = data.readUnsignedShort();
+            for(int index = 0; index < membersCount; index++) {
+                skip(data, 4);
+                descriptors.add(data.readUnsignedShort());
+                int attributesCount = data.readUnsignedShort();
+                for(int attribute = 0; attribute < attributesCount; attribute++) {
+                    skip(data, 2);
+                    skip(data, data.readInt() & 0xFFFFFFFFL);
+                }
+            }
+        }
+
+        Set<String> references = new TreeSet<String>();
+        for(int index = 1; index < count; index++) {
+            if(classes[index] != 0)
+                addReference(references, utf8(path, utf8s, classes[index]));
+        }
+        for(int descriptor:descriptors)
+            addDescriptorReferences(references, utf8(path, utf8s, descriptor));
+        references.remove(name);
+
+        JarClassInfo info = new JarClassInfo();
+        info.setPath(path);
+        info.setMinorVersion(minorVersion);
+        info.setMajorVersion(majorVersion);
+        info.setAccessFlags(accessFlags);
+        info.setName(name);
+        info.setSuperName(superName);
+        info.setInterfaces(interfaces);
+        info.setReferencedClasses(references);
+        return info;
+    }
+
+    private String className(String path, String[] utf8s, int[] classes, int index) throws IOException {
+        if(index <= 0 || index >= classes.length || classes[index] == 0)
+            throw new IOException("Unexpected class index " + index + " into " + path);
+        return canonical(utf8(path, utf8s, classes[index]).replace('/', '.'));
+    }
+
+    // a class constant can be an internal name or an array descriptor
+    private void addReference(Set<String> references, String internalName) {
+        if(internalName.startsWith("["))
+            addDescriptorReferences(references, internalName);
+        else
+            references.add(canonical(internalName.replace('/', '.')));
+    }
+
+    // only class types of a descriptor are references, primitive types are ignored
+    private void addDescriptorReferences(Set<String> references, String descriptor) {
+        int start = descriptor.indexOf('L');
+        while (start >= 0) {
+            int end = descriptor.indexOf(';', start);
+            if(end < 0)
+                return;
+            references.add(canonical(descriptor.substring(start + 1, end).replace('/', '.')));
+            start = descriptor.indexOf('L', end);
+        }
+    }
+
+    private String canonical(String name) {
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+
+    private static String utf8(String path, String[] utf8s, int index) throws IOException {
+        if(index <= 0 || index >= utf8s.length || utf8s[index] == null)
+            throw new IOException("Unexpected utf8 index " + index + " into " + path);
+        return utf8s[index];
+    }
+
+    // bytes are read rather than skipped, a skip would bypass the digests computed on the same stream
+    private static void skip(DataInputStream data, long length) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(length, SKIP_BUFFER_SIZE)];
+        while (length > 0) {
+            int count = (int) Math.min(length, buffer.length);
+            data.readFully(buffer, 0, count);
+            length -= count;
+        }
+    }
+}
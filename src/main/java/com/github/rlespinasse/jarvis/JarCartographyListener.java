@@ -0,0 +1,18 @@
+package com.github.rlespinasse.jarvis;
+
+import com.github.rlespinasse.jarvis.beans.JarCartographyEvent;
+
+/**
+ * listener of the changes of the jars into a watched directory
+ *
+ * @author Romain Lespinasse
+ * @see JarCartographyWatcher
+ */
+public interface JarCartographyListener {
+
+    /**
+     * called after the cartographies of the watcher are updated
+     * @param event change of a jar
+     */
+    void onChange(JarCartographyEvent event);
+}
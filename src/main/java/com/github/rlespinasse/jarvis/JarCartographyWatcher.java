@@ -0,0 +1,233 @@
+package com.github.rlespinasse.jarvis;
+
+import com.github.rlespinasse.jarvis.beans.JarCartography;
+import com.github.rlespinasse.jarvis.beans.JarCartographyEvent;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+
+/**
+ * live cartographies of the jars of a directory,<br/>
+ * <i>only the added or modified jars are cartographied again, the removed ones are dropped</i>
+ * <p>
+ * the directory is polled with the size and the last modification time of its files, a jar is cartographied
+ * once it's unchanged since a quiet period (to skip the partially written files).
+ * a jar which can not be cartographied is ignored until its next modification.
+ * </p>
+ *
+ * @author Romain Lespinasse
+ */
+public final class JarCartographyWatcher {
+    private static final String DEFAULT_JAR_FILTER_PATTERN = ".*\\.jar";
+    private static final long DEFAULT_POLL_INTERVAL = 2000;
+    private static final long DEFAULT_QUIET_PERIOD = 1000;
+
+    private final File directory;
+    private final Pattern jarFilter;
+    private final String resourceFilterPattern;
+    private final boolean withManifest;
+    private final JarResourceInfo[] informationFilters;
+    private final long pollInterval;
+    private final long quietPeriod;
+    private final Map<String, JarCartography> cartographies;
+    private final Map<String, String> fingerprints;
+    private final List<JarCartographyListener> listeners;
+    private final Object pollLock;
+    private ScheduledExecutorService executor;
+
+    /**
+     * initialize a watcher of the <code>.jar</code> files of a directory
+     * (polled every 2 seconds, with a quiet period of 1 second)
+     * @param directory directory to watch
+     * @param resourceFilterPattern pattern to filter the resources (no filter by default, see {@link java.util.regex.Pattern#matches(String, CharSequence)})
+     * @param withManifest <code>true</code> if you want the {@link java.util.jar.Manifest} informations
+     * @param informationFilters informations of the jar resources
+     * @throws IllegalArgumentException if <code>directory</code> is null
+     */
+    public JarCartographyWatcher(File directory, String resourceFilterPattern, boolean withManifest, JarResourceInfo ... informationFilters) {
+        this(directory, DEFAULT_JAR_FILTER_PATTERN, DEFAULT_POLL_INTERVAL, DEFAULT_QUIET_PERIOD, resourceFilterPattern, withManifest, informationFilters);
+    }
+
+    /**
+     * initialize a watcher of some files of a directory
+     * @param directory directory to watch
+     * @param jarFilterPattern pattern to filter the files of the directory (see {@link java.util.regex.Pattern#matches(String, CharSequence)})
+     * @param pollInterval delay between two polls of the directory (in milliseconds)
+     * @param quietPeriod delay since the last modification of a jar before its cartography (in milliseconds)
+     * @param resourceFilterPattern pattern to filter the resources (no filter by default, see {@link java.util.regex.Pattern#matches(String, CharSequence)})
+     * @param withManifest <code>true</code> if you want the {@link java.util.jar.Manifest} informations
+     * @param informationFilters informations of the jar resources
+     * @throws IllegalArgumentException if <code>directory</code> or <code>jarFilterPattern</code> is null
+     * @throws IllegalArgumentException if <code>pollInterval</code> is not positive or <code>quietPeriod</code> is negative
+     */
+    public JarCartographyWatcher(File directory, String jarFilterPattern, long pollInterval, long quietPeriod, String resourceFilterPattern, boolean withManifest, JarResourceInfo ... informationFilters) {
+        if(directory == null)
+            throw new IllegalArgumentException("Unexpectedly null directory");
+        if(jarFilterPattern == null)
+            throw new IllegalArgumentException("Unexpectedly null jarFilterPattern");
+        if(pollInterval <= 0)
+            throw new IllegalArgumentException("Unexpectedly not positive pollInterval");
+        if(quietPeriod < 0)
+            throw new IllegalArgumentException("Unexpectedly negative quietPeriod");
+        this.directory = directory.getAbsoluteFile();
+        this.jarFilter = Pattern.compile(jarFilterPattern);
+        this.pollInterval = pollInterval;
+        this.quietPeriod = quietPeriod;
+        this.resourceFilterPattern = resourceFilterPattern;
+        this.withManifest = withManifest;
+        this.informationFilters = informationFilters;
+        this.cartographies = new ConcurrentHashMap<String, JarCartography>();
+        this.fingerprints = new HashMap<String, String>();
+        this.listeners = new CopyOnWriteArrayList<JarCartographyListener>();
+        this.pollLock = new Object();
+    }
+
+    public void addListener(JarCartographyListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(JarCartographyListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * get the current cartographies of the watched jars
+     * @return cartographies by path of the jar into filesystem (aka {@link java.io.File#getAbsolutePath()})
+     */
+    public Map<String, JarCartography> getCartographies() {
+        return Collections.unmodifiableMap(cartographies);
+    }
+
+    /**
+     * get the current cartography of a watched jar
+     * @param filename path of the jar into filesystem (aka {@link java.io.File#getAbsolutePath()})
+     * @return a cartography, <code>null</code> if the jar is not (or not yet) cartographied
+     */
+    public JarCartography getCartography(String filename) {
+        return cartographies.get(filename);
+    }
+
+    /**
+     * start to poll the directory in background (the first poll is immediate)
+     * @throws IllegalStateException if the watcher is already started
+     */
+    public synchronized void start() {
+        if(executor != null)
+            throw new IllegalStateException("Unexpectedly already started watcher");
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "jarvis-watcher-" + directory.getName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    poll();
+                } catch (RuntimeException e) {
+                    // a unexpected failure must not stop the next polls
+                    report(e);
+                }
+            }
+        }, 0, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * stop to poll the directory (the current cartographies are kept)
+     */
+    public synchronized void stop() {
+        if(executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * poll the directory now, update the cartographies of the changed jars and notify the listeners,<br/>
+     * <i>the polls (background or not) are serialized, and the listeners of a poll are notified before the next
+     * poll starts, so the events of a jar are always received in order (no <code>MODIFIED</code> before its
+     * <code>ADDED</code>). a failing listener is reported to the uncaught exception handler of the current thread
+     * and does not prevent the other notifications. {@link #stop()} does not wait for a poll, but a listener must
+     * not wait for another thread calling this method</i>
+     * @return the changes found by this poll
+     */
+    public List<JarCartographyEvent> poll() {
+        synchronized (pollLock) {
+            List<JarCartographyEvent> events = scan();
+            for(JarCartographyEvent event:events) {
+                for(JarCartographyListener listener:listeners) {
+                    try {
+                        listener.onChange(event);
+                    } catch (RuntimeException e) {
+                        report(e);
+                    }
+                }
+            }
+            return events;
+        }
+    }
+
+    private List<JarCartographyEvent> scan() {
+        List<JarCartographyEvent> events = new ArrayList<JarCartographyEvent>();
+        File[] files = directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.isFile() && jarFilter.matcher(file.getName()).matches();
+            }
+        });
+        if(files == null)
+            files = new File[0];
+        Arrays.sort(files);
+
+        Set<String> filenames = new HashSet<String>();
+        for(File file:files)
+            filenames.add(file.getAbsolutePath());
+        for(String filename:new TreeSet<String>(fingerprints.keySet())) {
+            if(!filenames.contains(filename)) {
+                fingerprints.remove(filename);
+                if(cartographies.remove(filename) != null)
+                    events.add(new JarCartographyEvent(JarCartographyEvent.Type.REMOVED, filename, null));
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for(File file:files) {
+            String filename = file.getAbsolutePath();
+            long lastModified = file.lastModified();
+            String fingerprint = file.length() + "@" + lastModified;
+            if(fingerprint.equals(fingerprints.get(filename)) || now - lastModified < quietPeriod)
+                continue;
+            // an interrupted scan (see stop()) is aborted, the remaining jars are cartographied by the next scan
+            if(Thread.currentThread().isInterrupted())
+                break;
+            JarCartography previous = cartographies.get(filename);
+            try {
+                JarCartography cartography = Jarvis.getJarCartography(filename, resourceFilterPattern, withManifest, informationFilters);
+                fingerprints.put(filename, fingerprint);
+                cartographies.put(filename, cartography);
+                JarCartographyEvent.Type type = previous != null ? JarCartographyEvent.Type.MODIFIED : JarCartographyEvent.Type.ADDED;
+                events.add(new JarCartographyEvent(type, filename, cartography));
+            } catch (InterruptedIOException e) {
+                break;
+            } catch (IOException e) {
+                if(Thread.currentThread().isInterrupted())
+                    break;
+                // a unreadable jar has no cartography until its next modification
+                fingerprints.put(filename, fingerprint);
+                if(cartographies.remove(filename) != null)
+                    events.add(new JarCartographyEvent(JarCartographyEvent.Type.REMOVED, filename, null));
+            }
+        }
+        return events;
+    }
+
+    private static void report(RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+}
@@ -21,6 +21,23 @@ public enum JarResourceInfo {
     MANIFEST_ATTRIBUTES,
     CERTIFICATES,
     CODE_SIGNERS,
+    /**
+     * class informations of the <code>.class</code> resources (version, superclass, interfaces and referenced classes)
+     * @see com.github.rlespinasse.jarvis.beans.JarClassIndex
+     */
+    CLASS_INFO,
+    /**
+     * SHA-1 digest of the resources content (and of the jar, see {@link com.github.rlespinasse.jarvis.beans.JarCartography#getDigest(String)}),
+     * computed for every resource (except directories) in a parallel pass which inflates each resource once, shared
+     * with {@link #CLASS_INFO}, or from the content of the resource when it's already completely loaded for {@link #CONTENT}
+     */
+    SHA_1("SHA-1"),
+    /**
+     * SHA-256 digest of the resources content (and of the jar, see {@link com.github.rlespinasse.jarvis.beans.JarCartography#getDigest(String)}),
+     * computed for every resource (except directories) in a parallel pass which inflates each resource once, shared
+     * with {@link #CLASS_INFO}, or from the content of the resource when it's already completely loaded for {@link #CONTENT}
+     */
+    SHA_256("SHA-256"),
     CONTENT,
     INCLUDE_DIRECTORIES,
     /**
@@ -130,6 +147,7 @@ public enum JarResourceInfo {
         INCLUDE_DIRECTORIES);
 
     private List<JarResourceInfo> subinfos;
+    private String digestAlgorithm;
     
     private JarResourceInfo() {
         this.subinfos = null;
@@ -139,6 +157,19 @@ public enum JarResourceInfo {
         this.subinfos = Arrays.asList(subinfos);
     }
 
+    private JarResourceInfo(String digestAlgorithm) {
+        this();
+        this.digestAlgorithm = digestAlgorithm;
+    }
+
+    /**
+     * get the digest algorithm of this information
+     * @return a digest algorithm name (see {@link java.security.MessageDigest#getInstance(String)}), <code>null</code> if this information is not a digest
+     */
+    public String getDigestAlgorithm() {
+        return digestAlgorithm;
+    }
+
     /**
      * get the all {@link JarResourceInfo} of this one (usefull for group informations),<br/>
      * <i>You can use this method on single informations, it's will return a list with one item</i>
@@ -0,0 +1,243 @@
+package com.github.rlespinasse.jarvis;
+
+import com.github.rlespinasse.jarvis.beans.JarSearchHit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * search engine of literals and regular expressions into the contents of jars,<br/>
+ * <i>only the resources matching the resource filter are inflated, and they are searched in parallel</i>
+ * <ul>
+ *     <li>literals are encoded in UTF-8 and found byte by byte with a multi-pattern automaton</li>
+ *     <li>regular expressions are applied on the resource decoded as UTF-8 (malformed bytes are decoded as U+FFFD),
+ *     through a sliding window: a match longer than the maximum match length (1024 characters by default)
+ *     can be missed or truncated, and anchors or look-arounds only see the current window</li>
+ * </ul>
+ * the resource contents are never retained, a worker only keeps a bounded buffer.
+ * offsets of the hits are byte offsets into the uncompressed resources (the first byte of the match).
+ *
+ * @author Romain Lespinasse
+ */
+public final class JarSearch {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int BUFFER_SIZE = 8192;
+    private static final int DEFAULT_MAX_MATCH_LENGTH = 1024;
+
+    private final List<String> literals;
+    private final List<Pattern> regexes;
+    private final ByteAutomaton automaton;
+    private final int workers;
+    private final int maxMatchLength;
+
+    /**
+     * initialize a search engine (with a worker by available processor)
+     * @param literals literals to search (can be null)
+     * @param regexes regular expressions to search (can be null, see {@link java.util.regex.Pattern#compile(String)})
+     * @throws IllegalArgumentException if there is no literal nor regular expression to search
+     * @throws IllegalArgumentException if a literal is null or empty
+     * @throws java.util.regex.PatternSyntaxException if a regular expression is invalid
+     */
+    public JarSearch(Collection<String> literals, Collection<String> regexes) {
+        this(literals, regexes, ParallelTasks.defaultWorkers());
+    }
+
+    /**
+     * initialize a search engine
+     * @param literals literals to search (can be null)
+     * @param regexes regular expressions to search (can be null, see {@link java.util.regex.Pattern#compile(String)})
+     * @param workers maximum number of resources searched at the same time
+     * @throws IllegalArgumentException if there is no literal nor regular expression to search
+     * @throws IllegalArgumentException if a literal is null or empty
+     * @throws IllegalArgumentException if <code>workers</code> is lower than 1
+     * @throws java.util.regex.PatternSyntaxException if a regular expression is invalid
+     */
+    public JarSearch(Collection<String> literals, Collection<String> regexes, int workers) {
+        this(literals, regexes, workers, DEFAULT_MAX_MATCH_LENGTH);
+    }
+
+    /**
+     * initialize a search engine
+     * @param literals literals to search (can be null)
+     * @param regexes regular expressions to search (can be null, see {@link java.util.regex.Pattern#compile(String)})
+     * @param workers maximum number of resources searched at the same time
+     * @param maxMatchLength maximum length (in characters) of a regular expression match
+     * @throws IllegalArgumentException if there is no literal nor regular expression to search
+     * @throws IllegalArgumentException if a literal is null or empty
+     * @throws IllegalArgumentException if <code>workers</code> or <code>maxMatchLength</code> is lower than 1
+     * @throws java.util.regex.PatternSyntaxException if a regular expression is invalid
+     */
+    public JarSearch(Collection<String> literals, Collection<String> regexes, int workers, int maxMatchLength) {
+        if(workers < 1)
+            throw new IllegalArgumentException("Unexpectedly " + workers + " workers");
+        if(maxMatchLength < 1)
+            throw new IllegalArgumentException("Unexpectedly " + maxMatchLength + " maxMatchLength");
+        this.literals = new ArrayList<String>();
+        this.regexes = new ArrayList<Pattern>();
+        if(literals != null) {
+            for(String literal:literals) {
+                if(literal == null || literal.length() == 0)
+                    throw new IllegalArgumentException("Unexpectedly empty literal");
+                this.literals.add(literal);
+            }
+        }
+        if(regexes != null) {
+            for(String regex:regexes)
+                this.regexes.add(Pattern.compile(regex));
+        }
+        if(this.literals.isEmpty() && this.regexes.isEmpty())
+            throw new IllegalArgumentException("Unexpectedly no literal nor regular expression to search");
+        List<byte[]> encodedLiterals = new ArrayList<byte[]>(this.literals.size());
+        for(String literal:this.literals)
+            encodedLiterals.add(literal.getBytes(UTF_8));
+        this.automaton = this.literals.isEmpty() ? null : new ByteAutomaton(encodedLiterals);
+        this.workers = workers;
+        this.maxMatchLength = maxMatchLength;
+    }
+
+    /**
+     * search into all the resources of a jar
+     * @param filename path of the jar into filesystem (aka {@link java.io.File#getAbsolutePath()})
+     * @return hits ordered by resource (in the jar order) then by offset
+     * @throws IOException if an I/O error has occurred
+     * @throws IOException if the file does not exist, is a directory rather than a regular file, or for some other reason cannot be opened for reading
+     */
+    public List<JarSearchHit> search(String filename) throws IOException {
+        return search(filename, null);
+    }
+
+    /**
+     * search into some resources of a jar
+     * @param filename path of the jar into filesystem (aka {@link java.io.File#getAbsolutePath()})
+     * @param resourceFilterPattern pattern to filter the resources (no filter by default, see {@link java.util.regex.Pattern#matches(String, CharSequence)})
+     * @return hits ordered by resource (in the jar order) then by offset
+     * @throws IOException if an I/O error has occurred
+     * @throws IOException if the file does not exist, is a directory rather than a regular file, or for some other reason cannot be opened for reading
+     */
+    public List<JarSearchHit> search(String filename, String resourceFilterPattern) throws IOException {
+        return search(Collections.singletonList(filename), resourceFilterPattern);
+    }
+
+    /**
+     * search into some resources of a batch of jars,<br/>
+     * <i>jars are opened one after the other, their resources are searched in parallel</i>
+     * @param filenames paths of the jars into filesystem (aka {@link java.io.File#getAbsolutePath()})
+     * @param resourceFilterPattern pattern to filter the resources (no filter by default, see {@link java.util.regex.Pattern#matches(String, CharSequence)})
+     * @return hits ordered by jar (in the <code>filenames</code> order), by resource (in the jar order) then by offset
+     * @throws IOException if an I/O error has occurred
+     * @throws IOException if a file does not exist, is a directory rather than a regular file, or for some other reason cannot be opened for reading
+     */
+    public List<JarSearchHit> search(Collection<String> filenames, String resourceFilterPattern) throws IOException {
+        Pattern resourceFilter = resourceFilterPattern != null ? Pattern.compile(resourceFilterPattern) : null;
+        List<JarSearchHit> hits = new ArrayList<JarSearchHit>();
+        for(String filename:filenames) {
+            JarFile jarFile = new JarFile(filename);
+            try {
+                List<EntrySearch> tasks = new ArrayList<EntrySearch>();
+                Enumeration<JarEntry> e = jarFile.entries();
+                while (e.hasMoreElements()) {
+                    JarEntry jarEntry = e.nextElement();
+                    boolean matches = resourceFilter == null || resourceFilter.matcher(jarEntry.getName()).matches();
+                    if(matches && !jarEntry.isDirectory())
+                        tasks.add(new EntrySearch(filename, jarFile, jarEntry));
+                }
+                for(List<JarSearchHit> entryHits:ParallelTasks.invokeAll(tasks, workers))
+                    hits.addAll(entryHits);
+            } finally {
+                jarFile.close();
+            }
+        }
+        return hits;
+    }
+
+    private List<JarSearchHit> search(String filename, String path, InputStream input) throws IOException {
+        List<JarSearchHit> hits = new ArrayList<JarSearchHit>();
+        Utf8Window window = regexes.isEmpty() ? null : new Utf8Window(maxMatchLength + BUFFER_SIZE);
+        int[] resumes = new int[regexes.size()];
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int state = 0;
+        long position = 0;
+        int readedBytes;
+        while ((readedBytes = input.read(buffer)) != -1) {
+            if(automaton != null) {
+                for(int index = 0; index < readedBytes; index++) {
+                    state = automaton.next(state, buffer[index]);
+                    position++;
+                    for(int literal:automaton.matches(state))
+                        hits.add(new JarSearchHit(filename, path, position - automaton.length(literal), literals.get(literal)));
+                }
+            }
+            if(window != null) {
+                int offset = 0;
+                while (offset < readedBytes) {
+                    int count = Math.min(readedBytes - offset, window.remaining());
+                    window.append(buffer, offset, count);
+                    offset += count;
+                    if(window.remaining() <= 0)
+                        searchRegexes(filename, path, window, false, resumes, hits);
+                }
+            }
+        }
+        if(window != null) {
+            window.finish();
+            searchRegexes(filename, path, window, true, resumes, hits);
+        }
+        Collections.sort(hits, new Comparator<JarSearchHit>() {
+            public int compare(JarSearchHit first, JarSearchHit second) {
+                return first.getOffset() < second.getOffset() ? -1 : (first.getOffset() == second.getOffset() ? 0 : 1);
+            }
+        });
+        return hits;
+    }
+
+    // only the matches starting before the last maxMatchLength characters are complete, unless at the end of the resource,
+    // each regex resumes after its last reported match so a match crossing the limit is not reported again
+    private void searchRegexes(String filename, String path, Utf8Window window, boolean end, int[] resumes, List<JarSearchHit> hits) {
+        int limit = end ? window.length() : window.length() - maxMatchLength;
+        // a surrogate pair is kept into the same window
+        if(limit > 0 && limit < window.length() && Character.isHighSurrogate(window.charAt(limit - 1)))
+            limit--;
+        if(limit <= 0)
+            return;
+        for(int index = 0; index < regexes.size(); index++) {
+            Pattern regex = regexes.get(index);
+            Matcher matcher = regex.matcher(window);
+            boolean found = resumes[index] <= window.length() && matcher.find(resumes[index]);
+            while (found && matcher.start() < limit) {
+                hits.add(new JarSearchHit(filename, path, window.offset(matcher.start()), regex.pattern()));
+                resumes[index] = matcher.end();
+                found = matcher.find();
+            }
+            resumes[index] = Math.max(0, resumes[index] - limit);
+        }
+        window.discard(limit);
+    }
+
+    private final class EntrySearch implements Callable<List<JarSearchHit>> {
+        private final String filename;
+        private final JarFile jarFile;
+        private final JarEntry jarEntry;
+
+        private EntrySearch(String filename, JarFile jarFile, JarEntry jarEntry) {
+            this.filename = filename;
+            this.jarFile = jarFile;
+            this.jarEntry = jarEntry;
+        }
+
+        public List<JarSearchHit> call() throws IOException {
+            InputStream input = jarFile.getInputStream(jarEntry);
+            try {
+                return search(filename, jarEntry.getName(), input);
+            } finally {
+                input.close();
+            }
+        }
+    }
+}
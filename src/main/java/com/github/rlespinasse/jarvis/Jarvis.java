@@ -2,11 +2,18 @@ package com.github.rlespinasse.jarvis;
 
 import com.github.rlespinasse.jarvis.beans.JarCartography;
 import com.github.rlespinasse.jarvis.beans.JarResource;
+import com.github.rlespinasse.jarvis.beans.JarSearchHit;
 
 import java.io.*;
 import java.net.JarURLConnection;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -22,6 +29,12 @@ import static org.apache.commons.io.FilenameUtils.getName;
  * @author Romain Lespinasse
  */
 public final class Jarvis {
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] MERKLE_LEAF = {0};
+    private static final byte[] MERKLE_NODE = {1};
+
     private Jarvis() {}
 
     /**
@@ -81,6 +94,22 @@ public final class Jarvis {
         return extractSomeFiles;
     }
 
+    /**
+     * search some literals into the resources of a jar,<br/>
+     * <i>the literals are encoded in UTF-8 and matched exactly (case-sensitive) on the bytes of the resources,
+     * so a literal is not found into a resource using another encoding (like UTF-16 or ISO-8859-1 with non ASCII characters)</i>
+     * @param filename path of the jar into filesystem (aka {@link java.io.File#getAbsolutePath()})
+     * @param resourceFilterPattern pattern to filter the resources (no filter by default, see {@link java.util.regex.Pattern#matches(String, CharSequence)})
+     * @param literals literals to search
+     * @return hits ordered by resource (in the jar order) then by offset (in bytes)
+     * @throws IOException if an I/O error has occurred
+     * @throws IOException if the file does not exist, is a directory rather than a regular file, or for some other reason cannot be opened for reading
+     * @see JarSearch
+     */
+    public static List<JarSearchHit> searchContents(String filename, String resourceFilterPattern, String ... literals) throws IOException {
+        return new JarSearch(Arrays.asList(literals), null).search(filename, resourceFilterPattern);
+    }
+
     /**
      * get a cartography of a jar
      * @param filename path of the jar into filesystem (aka {@link java.io.File#getAbsolutePath()})
@@ -143,10 +172,15 @@ public final class Jarvis {
 
     private static void fill(JarCartography cartography) throws IOException {
         JarFile jarFile = new JarFile(cartography.getFilename());
-        fillManifest(cartography, jarFile);
-        fillJarResources(cartography, jarFile);
-        jarFile.close();
-        fillJarResourceContents(cartography);
+        try {
+            fillManifest(cartography, jarFile);
+            fillJarResources(cartography, jarFile);
+            // contents first, so the informations computed from the contents can reuse them instead of inflating again
+            fillJarResourceContents(cartography);
+            fillJarResourceStreamInfos(cartography, jarFile);
+        } finally {
+            jarFile.close();
+        }
     }
 
     private static void fillJarResourceContents(JarCartography cartography) throws IOException {
@@ -154,23 +188,104 @@ public final class Jarvis {
             FileInputStream jarFileInputStream = new FileInputStream(cartography.getFilename());
             BufferedInputStream jarBufferedInputStream = new BufferedInputStream(jarFileInputStream);
             JarInputStream jarInputStream = new JarInputStream(jarBufferedInputStream);
-            JarEntry jarEntry;
-            while ((jarEntry = jarInputStream.getNextJarEntry()) != null) {
-                JarResource resource = cartography.getResources().get(jarEntry.getName());
-                if(jarEntry.isDirectory())
+            try {
+                JarEntry jarEntry;
+                while ((jarEntry = jarInputStream.getNextJarEntry()) != null) {
+                    JarResource resource = cartography.getResources().get(jarEntry.getName());
+                    if(jarEntry.isDirectory())
+                        continue;
+                    int size = (int) (resource!=null?resource.getSize():jarEntry.getSize());
+                    byte[] content = new byte[size];
+                    int offset = 0;
+                    int readedBytes = 0;
+                    while ((size - offset) > 0) {
+                        readedBytes = jarInputStream.read(content, offset, size-offset);
+                        if (readedBytes == -1) break;
+                        offset += readedBytes;
+                    }
+                    if(resource != null) {
+                        resource.setContent(content);
+                        // a content shorter than the resource (or cut by the end of the stream) is not complete
+                        resource.setCompleteContent(offset == size && jarInputStream.read() == -1);
+                    }
+                }
+            } finally {
+                jarInputStream.close();
+            }
+        }
+    }
+
+    private static void fillJarResourceStreamInfos(JarCartography cartography, JarFile jarFile) throws IOException {
+        List<String> digestAlgorithms = new ArrayList<String>();
+        for(JarResourceInfo info:cartography.getInformations()) {
+            if(info.getDigestAlgorithm() != null && !digestAlgorithms.contains(info.getDigestAlgorithm()))
+                digestAlgorithms.add(info.getDigestAlgorithm());
+        }
+        boolean withClassInfo = cartography.getInformations().contains(JarResourceInfo.CLASS_INFO);
+        if(withClassInfo || !digestAlgorithms.isEmpty()) {
+            ClassFileReader classFileReader = withClassInfo ? new ClassFileReader(new ConcurrentHashMap<String, String>()) : null;
+            List<ResourceStreamTask> tasks = new ArrayList<ResourceStreamTask>();
+            // ordered by path, so the class index is the same whatever the order of the resources
+            SortedMap<String, JarResource> resources = new TreeMap<String, JarResource>(cartography.getResources());
+            for(Map.Entry<String, JarResource> entry:resources.entrySet()) {
+                if(entry.getValue().isDirectory())
                     continue;
-                int size = (int) (resource!=null?resource.getSize():jarEntry.getSize());
-                byte[] content = new byte[size];
-                int offset = 0;
-                int readedBytes = 0;
-                while ((size - offset) > 0) {
-                    readedBytes = jarInputStream.read(content, offset, size-offset);
-                    if (readedBytes == -1) break;
-                    offset += readedBytes;
+                boolean classFile = withClassInfo && entry.getKey().endsWith(CLASS_FILE_EXTENSION);
+                if(classFile || !digestAlgorithms.isEmpty())
+                    tasks.add(new ResourceStreamTask(jarFile, jarFile.getJarEntry(entry.getKey()), entry.getValue(), classFile ? classFileReader : null, digestAlgorithms));
+            }
+            SortedMap<String, JarResource> digestedResources = new TreeMap<String, JarResource>();
+            for(ResourceStreamTask task:ParallelTasks.invokeAll(tasks, ParallelTasks.defaultWorkers())) {
+                if(task.resource.getClassInfo() != null)
+                    cartography.getClassIndex().addClass(task.resource.getClassInfo());
+                if(task.classInfoError != null)
+                    cartography.getClassIndex().addUnparseableClass(task.jarEntry.getName(), task.classInfoError);
+                digestedResources.put(task.jarEntry.getName(), task.resource);
+            }
+            for(String digestAlgorithm:digestAlgorithms)
+                cartography.setDigest(digestAlgorithm, merkleDigest(digestAlgorithm, digestedResources));
+        }
+    }
+
+    /**
+     * compute the root of a Merkle tree of resource digests,<br/>
+     * <i>a leaf is the digest of the resource path and the resource digest, leaves are ordered by path,
+     * a node is the digest of its two children, an odd node is promoted to the upper level</i>
+     */
+    private static byte[] merkleDigest(String digestAlgorithm, SortedMap<String, JarResource> resources) {
+        MessageDigest messageDigest = newMessageDigest(digestAlgorithm);
+        List<byte[]> level = new ArrayList<byte[]>(resources.size());
+        for(Map.Entry<String, JarResource> entry:resources.entrySet()) {
+            messageDigest.update(MERKLE_LEAF);
+            messageDigest.update(entry.getKey().getBytes(UTF_8));
+            messageDigest.update(MERKLE_LEAF);
+            messageDigest.update(entry.getValue().getDigest(digestAlgorithm));
+            level.add(messageDigest.digest());
+        }
+        if(level.isEmpty())
+            return messageDigest.digest();
+        while (level.size() > 1) {
+            List<byte[]> upperLevel = new ArrayList<byte[]>((level.size() + 1) / 2);
+            for(int index = 0; index < level.size(); index += 2) {
+                if(index + 1 == level.size()) {
+                    upperLevel.add(level.get(index));
+                } else {
+                    messageDigest.update(MERKLE_NODE);
+                    messageDigest.update(level.get(index));
+                    messageDigest.update(level.get(index + 1));
+                    upperLevel.add(messageDigest.digest());
                 }
-                if(resource != null)
-                    resource.setContent(content);
             }
+            level = upperLevel;
+        }
+        return level.get(0);
+    }
+
+    private static MessageDigest newMessageDigest(String digestAlgorithm) {
+        try {
+            return MessageDigest.getInstance(digestAlgorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unexpectedly unsupported digest algorithm " + digestAlgorithm, e);
         }
     }
 
@@ -231,4 +346,59 @@ public final class Jarvis {
             }
         }
     }
+
+    /**
+     * inflate a jar resource once to fill all the informations computed from its content,<br/>
+     * <i>a content completely loaded by the content pass is read instead of inflating the resource again</i>
+     */
+    private static final class ResourceStreamTask implements Callable<ResourceStreamTask> {
+        private final JarFile jarFile;
+        private final JarEntry jarEntry;
+        private final JarResource resource;
+        private final ClassFileReader classFileReader;
+        private final List<String> digestAlgorithms;
+        private String classInfoError;
+
+        private ResourceStreamTask(JarFile jarFile, JarEntry jarEntry, JarResource resource, ClassFileReader classFileReader, List<String> digestAlgorithms) {
+            this.jarFile = jarFile;
+            this.jarEntry = jarEntry;
+            this.resource = resource;
+            this.classFileReader = classFileReader;
+            this.digestAlgorithms = digestAlgorithms;
+        }
+
+        public ResourceStreamTask call() throws IOException {
+            boolean withCompleteContent = resource.getContent() != null && resource.isCompleteContent();
+            InputStream input = withCompleteContent ? new ByteArrayInputStream(resource.getContent()) : jarFile.getInputStream(jarEntry);
+            List<MessageDigest> messageDigests = new ArrayList<MessageDigest>(digestAlgorithms.size());
+            for(String digestAlgorithm:digestAlgorithms) {
+                MessageDigest messageDigest = newMessageDigest(digestAlgorithm);
+                messageDigests.add(messageDigest);
+                input = new DigestInputStream(input, messageDigest);
+            }
+            input = new BufferedInputStream(input);
+            try {
+                if(classFileReader != null) {
+                    try {
+                        resource.setClassInfo(classFileReader.read(jarEntry.getName(), input));
+                    } catch (IOException e) {
+                        // a malformed class file must not fail the whole cartography
+                        classInfoError = e.getMessage();
+                    }
+                }
+                if(!messageDigests.isEmpty()) {
+                    // the digests need the whole content, even after the end of the class file header
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    while (input.read(buffer) != -1) {
+                        // only digested
+                    }
+                    for(MessageDigest messageDigest:messageDigests)
+                        resource.setDigest(messageDigest.getAlgorithm(), messageDigest.digest());
+                }
+            } finally {
+                input.close();
+            }
+            return this;
+        }
+    }
 }
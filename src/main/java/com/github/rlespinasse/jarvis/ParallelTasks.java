@@ -0,0 +1,86 @@
+package com.github.rlespinasse.jarvis;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * run independent tasks on a bounded pool of workers
+ *
+ * @author Romain Lespinasse
+ */
+final class ParallelTasks {
+    private ParallelTasks() {}
+
+    /**
+     * get a default number of workers (one by available processor)
+     * @return a number of workers
+     */
+    static int defaultWorkers() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * run all tasks and wait for their results
+     * @param tasks tasks to run
+     * @param workers maximum number of tasks running at the same time
+     * @param <T> type of a task result
+     * @return results of the tasks, in the same order as <code>tasks</code>
+     * @throws IOException if a task failed with an I/O error
+     * @throws InterruptedIOException if the current thread is interrupted while waiting
+     */
+    static <T> List<T> invokeAll(List<? extends Callable<T>> tasks, int workers) throws IOException {
+        List<T> results = new ArrayList<T>(tasks.size());
+        if(tasks.isEmpty())
+            return results;
+        // no need of a pool for a single task (or a single worker)
+        if(tasks.size() == 1 || workers <= 1) {
+            for(Callable<T> task:tasks)
+                results.add(call(task));
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, tasks.size()));
+        try {
+            List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+            for(Callable<T> task:tasks)
+                futures.add(executor.submit(task));
+            for(Future<T> future:futures)
+                results.add(get(future));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T call(Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a task");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof IOException)
+                throw (IOException) cause;
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if(cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.rlespinasse.jarvis;
+
+/**
+ * bounded window of characters decoded from an UTF-8 stream,<br/>
+ * <i>each character keeps the byte offset of its encoded sequence into the stream,
+ * malformed sequences are decoded as a replacement character (U+FFFD) by byte</i>
+ *
+ * @author Romain Lespinasse
+ */
+final class Utf8Window implements CharSequence {
+    private static final char REPLACEMENT = '\uFFFD';
+    // an appended byte can flush up to 3 pending bytes, each as a replacement character
+    private static final int MARGIN = 4;
+
+    private final char[] chars;
+    private final long[] offsets;
+    private int length;
+    private final byte[] pending;
+    private int pendingLength;
+    private long pendingOffset;
+    private long position;
+
+    /**
+     * initialize a empty window
+     * @param capacity maximum number of characters into the window
+     */
+    Utf8Window(int capacity) {
+        this.chars = new char[capacity + MARGIN];
+        this.offsets = new long[capacity + MARGIN];
+        this.pending = new byte[MARGIN];
+    }
+
+    /**
+     * get the number of bytes which can be appended without overflowing the window
+     * @return a number of bytes
+     */
+    int remaining() {
+        return chars.length - MARGIN - length;
+    }
+
+    /**
+     * decode some bytes at the end of the window
+     * @param bytes bytes of the stream
+     * @param offset offset of the first byte to decode
+     * @param count number of bytes to decode (at most {@link #remaining()})
+     */
+    void append(byte[] bytes, int offset, int count) {
+        for(int index = offset; index < offset + count; index++)
+            appendByte(bytes[index]);
+    }
+
+    /**
+     * decode the pending bytes of a truncated sequence at the end of the stream
+     */
+    void finish() {
+        for(int index = 0; index < pendingLength; index++)
+            add(REPLACEMENT, pendingOffset + index);
+        pendingLength = 0;
+    }
+
+    /**
+     * get the byte offset of a character into the stream
+     * @param index index of the character into the window
+     * @return offset of the first byte of the character
+     */
+    long offset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * remove the first characters of the window
+     * @param count number of characters to remove
+     */
+    void discard(int count) {
+        System.arraycopy(chars, count, chars, 0, length - count);
+        System.arraycopy(offsets, count, offsets, 0, length - count);
+        length -= count;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public char charAt(int index) {
+        if(index >= length)
+            throw new IndexOutOfBoundsException("Unexpected index " + index);
+        return chars[index];
+    }
+
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    private void appendByte(byte b) {
+        long offset = position++;
+        if(pendingLength > 0) {
+            if(isContinuation(pending[0], pendingLength, b)) {
+                pending[pendingLength++] = b;
+                if(pendingLength == sequenceLength(pending[0]))
+                    decodePending();
+                return;
+            }
+            // a sequence interrupted by a unexpected byte, which can start the next sequence
+            finish();
+        }
+        int sequenceLength = sequenceLength(b);
+        if(sequenceLength == 1) {
+            add((char) b, offset);
+        } else if(sequenceLength == 0) {
+            add(REPLACEMENT, offset);
+        } else {
+            pending[0] = b;
+            pendingLength = 1;
+            pendingOffset = offset;
+        }
+    }
+
+    private void decodePending() {
+        int codePoint;
+        if(pendingLength == 2)
+            codePoint = ((pending[0] & 0x1F) << 6) | (pending[1] & 0x3F);
+        else if(pendingLength == 3)
+            codePoint = ((pending[0] & 0x0F) << 12) | ((pending[1] & 0x3F) << 6) | (pending[2] & 0x3F);
+        else
+            codePoint = ((pending[0] & 0x07) << 18) | ((pending[1] & 0x3F) << 12) | ((pending[2] & 0x3F) << 6) | (pending[3] & 0x3F);
+        pendingLength = 0;
+        if(!Character.isValidCodePoint(codePoint)) {
+            add(REPLACEMENT, pendingOffset);
+            return;
+        }
+        for(char c:Character.toChars(codePoint))
+            add(c, pendingOffset);
+    }
+
+    private void add(char c, long offset) {
+        chars[length] = c;
+        offsets[length] = offset;
+        length++;
+    }
+
+    // the second byte is restricted to exclude overlong forms, surrogates and code points above U+10FFFF
+    private static boolean isContinuation(byte lead, int index, byte b) {
+        int value = b & 0xFF;
+        if(index > 1)
+            return value >= 0x80 && value <= 0xBF;
+        switch (lead & 0xFF) {
+            case 0xE0:
+                return value >= 0xA0 && value <= 0xBF;
+            case 0xED:
+                return value >= 0x80 && value <= 0x9F;
+            case 0xF0:
+                return value >= 0x90 && value <= 0xBF;
+            case 0xF4:
+                return value >= 0x80 && value <= 0x8F;
+            default:
+                return value >= 0x80 && value <= 0xBF;
+        }
+    }
+
+    // length of the sequence started by a byte, 0 if the byte can not start a sequence
+    private static int sequenceLength(byte b) {
+        int value = b & 0xFF;
+        if(value < 0x80)
+            return 1;
+        if(value >= 0xC2 && value <= 0xDF)
+            return 2;
+        if(value >= 0xE0 && value <= 0xEF)
+            return 3;
+        if(value >= 0xF0 && value <= 0xF4)
+            return 4;
+        return 0;
+    }
+}
@@ -23,6 +23,8 @@ public class JarCartography {
     private List<JarResourceInfo> informations;
     private Map<String, JarResource> resources;
     private Map<String, Map<String, String>> entryAttributes;
+    private JarClassIndex classIndex;
+    private Map<String, byte[]> digests;
 
     {
         // pattern to match any characters
@@ -32,6 +34,8 @@ public class JarCartography {
         this.informations = new ArrayList<JarResourceInfo>();
         this.resources = new HashMap<String, JarResource>();
         this.entryAttributes = new HashMap<String, Map<String, String>>();
+        this.classIndex = new JarClassIndex();
+        this.digests = new TreeMap<String, byte[]>();
     }
 
     /**
@@ -110,6 +114,31 @@ public class JarCartography {
         return resources;
     }
 
+    /**
+     * get the class index of this cartography
+     * @return a index of the class informations (empty without {@link JarResourceInfo#CLASS_INFO})
+     */
+    public JarClassIndex getClassIndex() {
+        return classIndex;
+    }
+
+    /**
+     * get the aggregate digest of the resources of this cartography,<br/>
+     * <i>root of a Merkle tree of the resource digests ordered by path, two cartographies with the same
+     * resource filter have the same digest if their resources have the same paths and the same contents</i>
+     * @param algorithm digest algorithm (like <code>SHA-256</code>)
+     * @return a digest, <code>null</code> if not computed
+     * @see JarResourceInfo#SHA_1
+     * @see JarResourceInfo#SHA_256
+     */
+    public byte[] getDigest(String algorithm) {
+        return digests.get(algorithm);
+    }
+
+    public void setDigest(String algorithm, byte[] digest) {
+        this.digests.put(algorithm, digest);
+    }
+
     public Manifest getManifest() {
         return manifest;
     }
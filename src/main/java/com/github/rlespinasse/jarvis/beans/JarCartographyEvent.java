@@ -0,0 +1,58 @@
+package com.github.rlespinasse.jarvis.beans;
+
+/**
+ * bean definition of a change of a jar into a watched directory
+ *
+ * @author Romain Lespinasse
+ */
+public class JarCartographyEvent {
+
+    /**
+     * define the kind of change of a jar
+     */
+    public enum Type {
+        ADDED,
+        MODIFIED,
+        REMOVED
+    }
+
+    private Type type;
+    private String filename;
+    private JarCartography cartography;
+
+    /**
+     * initialize a change event
+     * @param type kind of change
+     * @param filename path of the jar into filesystem (aka {@link java.io.File#getAbsolutePath()})
+     * @param cartography new cartography of the jar (<code>null</code> for {@link Type#REMOVED})
+     */
+    public JarCartographyEvent(Type type, String filename, JarCartography cartography) {
+        this.type = type;
+        this.filename = filename;
+        this.cartography = cartography;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public JarCartography getCartography() {
+        return cartography;
+    }
+
+    /**
+     * get a string representation of a change event
+     * <pre>
+     *  _type=_filename
+     * </pre>
+     * @return a string representation of a change event
+     */
+    @Override
+    public String toString() {
+        return type + "=" + filename;
+    }
+}
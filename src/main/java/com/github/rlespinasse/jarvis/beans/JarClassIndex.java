@@ -0,0 +1,150 @@
+package com.github.rlespinasse.jarvis.beans;
+
+import java.util.*;
+
+/**
+ * index of the class informations of one or more cartographies, queryable as a dependency graph
+ *
+ * @author Romain Lespinasse
+ * @see com.github.rlespinasse.jarvis.JarResourceInfo#CLASS_INFO
+ */
+public class JarClassIndex {
+    private static final String VERSIONED_CLASSES_PREFIX = "META-INF/versions/";
+
+    private Map<String, JarClassInfo> classes;
+    private Map<String, Set<String>> dependents;
+    private Map<String, String> unparseableClasses;
+
+    {
+        this.classes = new TreeMap<String, JarClassInfo>();
+        this.dependents = new HashMap<String, Set<String>>();
+        this.unparseableClasses = new TreeMap<String, String>();
+    }
+
+    /**
+     * add a class on this index,<br/>
+     * <i>if the class is already indexed, the base entry of a multi-release jar is preferred to its
+     * <code>META-INF/versions/</code> entries, otherwise the first one is kept (same class into two jars).
+     * module descriptors (<code>module-info.class</code>) are not indexed</i>
+     * @param info informations of a class file
+     */
+    public void addClass(JarClassInfo info) {
+        if(info.isModule())
+            return;
+        JarClassInfo existing = classes.get(info.getName());
+        if(existing != null) {
+            if(!isVersioned(existing) || isVersioned(info))
+                return;
+            for(String referencedClass:existing.getReferencedClasses())
+                dependents.get(referencedClass).remove(existing.getName());
+        }
+        classes.put(info.getName(), info);
+        for(String referencedClass:info.getReferencedClasses()) {
+            Set<String> referencingClasses = dependents.get(referencedClass);
+            if(referencingClasses == null) {
+                referencingClasses = new TreeSet<String>();
+                dependents.put(referencedClass, referencingClasses);
+            }
+            referencingClasses.add(info.getName());
+        }
+    }
+
+    /**
+     * add all the classes of another index on this index (to get a dependency graph across cartographies)
+     * @param index another index
+     * @see #addClass(JarClassInfo)
+     */
+    public void addAll(JarClassIndex index) {
+        for(JarClassInfo info:index.classes.values())
+            addClass(info);
+        unparseableClasses.putAll(index.unparseableClasses);
+    }
+
+    /**
+     * add a class file which can not be read on this index
+     * @param path path of the class file into the jar
+     * @param reason reason of the failure
+     */
+    public void addUnparseableClass(String path, String reason) {
+        unparseableClasses.put(path, reason);
+    }
+
+    /**
+     * get the class files which can not be read (truncated or malformed)
+     * @return reasons of the failures by path of the class file into the jar
+     */
+    public Map<String, String> getUnparseableClasses() {
+        return Collections.unmodifiableMap(unparseableClasses);
+    }
+
+    /**
+     * get the binary names of the indexed classes
+     * @return binary names, in natural order
+     */
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(classes.keySet());
+    }
+
+    /**
+     * get the informations of a indexed class
+     * @param className binary name of the class (aka {@link Class#getName()})
+     * @return informations of the class, <code>null</code> if the class is not indexed
+     */
+    public JarClassInfo getClassInfo(String className) {
+        return classes.get(className);
+    }
+
+    /**
+     * get the classes referenced by a indexed class
+     * @param className binary name of the class (aka {@link Class#getName()})
+     * @return binary names of the referenced classes (indexed or not), empty if the class is not indexed
+     */
+    public Set<String> getDependencies(String className) {
+        JarClassInfo info = classes.get(className);
+        if(info == null)
+            return Collections.emptySet();
+        return Collections.unmodifiableSet(info.getReferencedClasses());
+    }
+
+    /**
+     * get the indexed classes referencing a class
+     * @param className binary name of the class (aka {@link Class#getName()})
+     * @return binary names of the indexed classes referencing <code>className</code>
+     */
+    public Set<String> getDependents(String className) {
+        Set<String> referencingClasses = dependents.get(className);
+        if(referencingClasses == null)
+            return Collections.emptySet();
+        return Collections.unmodifiableSet(referencingClasses);
+    }
+
+    /**
+     * get the classes referenced by the indexed classes but not indexed themselves
+     * @return binary names of the unresolved classes (like classes of the JDK or of a missing jar)
+     */
+    public Set<String> getUnresolvedDependencies() {
+        Set<String> unresolved = new TreeSet<String>();
+        for(JarClassInfo info:classes.values()) {
+            for(String referencedClass:info.getReferencedClasses()) {
+                if(!classes.containsKey(referencedClass))
+                    unresolved.add(referencedClass);
+            }
+        }
+        return unresolved;
+    }
+
+    /**
+     * get the dependency graph of the indexed classes
+     * @return for each indexed class, the binary names of the referenced classes
+     */
+    public Map<String, Set<String>> getDependencyGraph() {
+        Map<String, Set<String>> graph = new TreeMap<String, Set<String>>();
+        for(JarClassInfo info:classes.values())
+            graph.put(info.getName(), Collections.unmodifiableSet(info.getReferencedClasses()));
+        return graph;
+    }
+
+    private static boolean isVersioned(JarClassInfo info) {
+        return info.getPath() != null && info.getPath().startsWith(VERSIONED_CLASSES_PREFIX);
+    }
+}
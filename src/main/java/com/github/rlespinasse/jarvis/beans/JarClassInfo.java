@@ -0,0 +1,143 @@
+package com.github.rlespinasse.jarvis.beans;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * bean definition of the class informations of a class file resource
+ *
+ * @author Romain Lespinasse
+ */
+public class JarClassInfo {
+    private static final int ACC_MODULE = 0x8000;
+
+    private String path;
+    private int minorVersion;
+    private int majorVersion;
+    private int accessFlags;
+    private String name;
+    private String superName;
+    private List<String> interfaces;
+    private Set<String> referencedClasses;
+
+    /**
+     * get the path of the class file into the jar
+     * @return path of the class file
+     * @see java.util.jar.JarEntry#getName()
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getMinorVersion() {
+        return minorVersion;
+    }
+
+    public void setMinorVersion(int minorVersion) {
+        this.minorVersion = minorVersion;
+    }
+
+    /**
+     * get the major version of the class file
+     * @return major version (<code>50</code> for Java 6, <code>51</code> for Java 7, ...)
+     */
+    public int getMajorVersion() {
+        return majorVersion;
+    }
+
+    public void setMajorVersion(int majorVersion) {
+        this.majorVersion = majorVersion;
+    }
+
+    /**
+     * get the access flags of the class
+     * @return access flags (see the <code>ACC_*</code> flags of the class file format)
+     */
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    public void setAccessFlags(int accessFlags) {
+        this.accessFlags = accessFlags;
+    }
+
+    /**
+     * get if the class file is a module descriptor (aka <code>module-info.class</code>)
+     * @return <code>true</code> if the <code>ACC_MODULE</code> flag is set
+     */
+    public boolean isModule() {
+        return (accessFlags & ACC_MODULE) != 0;
+    }
+
+    /**
+     * get the binary name of the class
+     * @return binary name (aka {@link Class#getName()})
+     */
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * get the binary name of the superclass
+     * @return binary name of the superclass, <code>null</code> for <code>java.lang.Object</code> or a module descriptor
+     */
+    public String getSuperName() {
+        return superName;
+    }
+
+    public void setSuperName(String superName) {
+        this.superName = superName;
+    }
+
+    public List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    public void setInterfaces(List<String> interfaces) {
+        this.interfaces = interfaces;
+    }
+
+    /**
+     * get the binary names of all the classes referenced by the constant pool and the field and method descriptors (except the class itself)
+     * @return binary names of the referenced classes
+     */
+    public Set<String> getReferencedClasses() {
+        return referencedClasses;
+    }
+
+    public void setReferencedClasses(Set<String> referencedClasses) {
+        this.referencedClasses = referencedClasses;
+    }
+
+    /**
+     * get a string representation of a class informations
+     * <pre>
+     *  _name={
+     *      path='_path',
+     *      version=_majorVersion._minorVersion,
+     *      superName=_superName,
+     *      interfaces=_interfaces,
+     *      referencedClasses.size=_referencedClasses.size
+     *  }
+     * </pre>
+     * @return a string representation of a class informations
+     */
+    @Override
+    public String toString() {
+        return name +"={" +
+                "path='" + path + '\'' +
+                ", version=" + majorVersion + "." + minorVersion +
+                ", superName=" + superName +
+                ", interfaces=" + interfaces +
+                ", referencedClasses.size=" + (referencedClasses!=null?referencedClasses.size():0) +
+                '}';
+    }
+}
@@ -2,7 +2,10 @@ package com.github.rlespinasse.jarvis.beans;
 
 import java.security.CodeSigner;
 import java.security.cert.Certificate;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.jar.Attributes;
 
 /**
@@ -23,7 +26,10 @@ public class JarResource {
     private List<CodeSigner> codeSigners;
     private List<Certificate> certificates;
     private Attributes manifestAttributes;
+    private JarClassInfo classInfo;
+    private Map<String, byte[]> digests;
     private byte[] content;
+    private boolean completeContent;
     private boolean directory;
 
     public long getTime() {
@@ -128,6 +134,46 @@ public class JarResource {
         this.manifestAttributes = manifestAttributes;
     }
 
+    /**
+     * get the class informations of a class file resource
+     * @return class informations, <code>null</code> if the resource is not a class file
+     * @see com.github.rlespinasse.jarvis.JarResourceInfo#CLASS_INFO
+     */
+    public JarClassInfo getClassInfo() {
+        return classInfo;
+    }
+
+    public void setClassInfo(JarClassInfo classInfo) {
+        this.classInfo = classInfo;
+    }
+
+    /**
+     * get a digest of the content of a jar resource
+     * @param algorithm digest algorithm (like <code>SHA-256</code>)
+     * @return a digest, <code>null</code> if not computed
+     * @see com.github.rlespinasse.jarvis.JarResourceInfo#SHA_1
+     * @see com.github.rlespinasse.jarvis.JarResourceInfo#SHA_256
+     */
+    public byte[] getDigest(String algorithm) {
+        return digests!=null?digests.get(algorithm):null;
+    }
+
+    /**
+     * get all the digests of the content of a jar resource
+     * @return digests by algorithm (empty if none computed)
+     */
+    public Map<String, byte[]> getDigests() {
+        if(digests == null)
+            return Collections.emptyMap();
+        return Collections.unmodifiableMap(digests);
+    }
+
+    public void setDigest(String algorithm, byte[] digest) {
+        if(digests == null)
+            digests = new TreeMap<String, byte[]>();
+        digests.put(algorithm, digest);
+    }
+
     public byte[] getContent() {
         return content;
     }
@@ -136,6 +182,18 @@ public class JarResource {
         this.content = content;
     }
 
+    /**
+     * get if the content of a jar resource is the whole resource
+     * @return <code>true</code> if the content was read until the end of the resource
+     */
+    public boolean isCompleteContent() {
+        return completeContent;
+    }
+
+    public void setCompleteContent(boolean completeContent) {
+        this.completeContent = completeContent;
+    }
+
     public boolean isDirectory() {
         return directory;
     }
@@ -159,6 +217,8 @@ public class JarResource {
      *      codeSigners=_codeSigners,
      *      certificates=_certificates,
      *      manifestAttributes=_manifestAttributes,
+     *      classInfo=_classInfo,
+     *      digests=_digests.algorithms,
      *      content.length=_content.length,
      *      directory=_directory
      *  }
@@ -179,6 +239,8 @@ public class JarResource {
                 ", codeSigners.size=" + (codeSigners!=null?codeSigners.size():0) +
                 ", certificates.size=" + (certificates!=null?certificates.size():0) +
                 ", manifestAttributes.size=" + (manifestAttributes!=null?manifestAttributes.size():0) +
+                ", classInfo=" + classInfo +
+                ", digests=" + (digests!=null?digests.keySet():"[]") +
                 ", content.length=" + (content!=null?content.length:0) +
                 ", directory=" + directory +
                 '}';
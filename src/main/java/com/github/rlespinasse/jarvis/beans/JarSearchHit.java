@@ -0,0 +1,55 @@
+package com.github.rlespinasse.jarvis.beans;
+
+/**
+ * bean definition of a pattern found into a jar resource
+ *
+ * @author Romain Lespinasse
+ */
+public class JarSearchHit {
+    private String filename;
+    private String path;
+    private long offset;
+    private String pattern;
+
+    /**
+     * initialize a search hit
+     * @param filename path of the jar into filesystem (aka {@link java.io.File#getAbsolutePath()})
+     * @param path path of the resource into the jar (see {@link java.util.jar.JarEntry#getName()})
+     * @param offset offset (in bytes) of the hit into the uncompressed resource
+     * @param pattern literal or regular expression found at this offset
+     */
+    public JarSearchHit(String filename, String path, long offset, String pattern) {
+        this.filename = filename;
+        this.path = path;
+        this.offset = offset;
+        this.pattern = pattern;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * get a string representation of a search hit
+     * <pre>
+     *  _filename!/_path@_offset='_pattern'
+     * </pre>
+     * @return a string representation of a search hit
+     */
+    @Override
+    public String toString() {
+        return filename + "!/" + path + "@" + offset + "='" + pattern + '\'';
+    }
+}